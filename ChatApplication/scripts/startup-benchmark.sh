@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch until /ws accepts SockJS handshakes (GET /ws/info -> 200),
+# which is the point a restarted node can take reconnecting users.
+#
+# Needs PostgreSQL and RabbitMQ running as configured in application.properties.
+#
+#   ./mvnw -Pfaststart package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# A run that isn't ready within TIMEOUT_S seconds (default 120) is killed and aborts the benchmark.
+#
+# Modes compared:
+#   default        plain jar, default profile
+#   faststart      plain jar, faststart profile (lazy init, schema validate, warm-up)
+#   faststart-cds  extracted jar + Spring AOT + CDS archive from target/faststart
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8081}
+TIMEOUT_S=${TIMEOUT_S:-120}
+URL="http://localhost:${PORT}/ws/info"
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAR=$(ls "$DIR"/target/*.jar | grep -v '\.original$' | head -n 1)
+JAR_NAME=$(basename "$JAR")
+FASTSTART_DIR="$DIR/target/faststart"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the given command, polls the handshake endpoint and prints elapsed milliseconds
+measure() {
+    local start pid elapsed
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited before becoming ready" >&2
+            exit 1
+        fi
+        if (( $(now_ms) - start > TIMEOUT_S * 1000 )); then
+            echo "Application not ready after ${TIMEOUT_S}s (is PostgreSQL/RabbitMQ up?)" >&2
+            kill "$pid"
+            wait "$pid" 2> /dev/null || true
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed"
+}
+
+report() {
+    local mode=$1
+    shift
+    local times=()
+    for ((i = 1; i <= RUNS; i++)); do
+        times+=("$(measure "$@")")
+    done
+    local sorted
+    sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+    printf '%-14s min %6s ms   median %6s ms   runs: %s\n' "$mode" \
+        "$(echo "$sorted" | head -n 1)" \
+        "$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")" \
+        "${times[*]}"
+}
+
+report default java -jar "$JAR"
+report faststart java -Dspring.profiles.active=faststart -jar "$JAR"
+
+if [[ -f "$FASTSTART_DIR/application.jsa" ]]; then
+    report faststart-cds bash -c "cd '$FASTSTART_DIR' && exec java -XX:SharedArchiveFile=application.jsa \
+        -Dspring.aot.enabled=true -Dspring.profiles.active=faststart -jar '$JAR_NAME'"
+else
+    echo "faststart-cds  skipped: build with ./mvnw -Pfaststart package first" >&2
+fi
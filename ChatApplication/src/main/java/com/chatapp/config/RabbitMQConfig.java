@@ -1,6 +1,11 @@
 package com.chatapp.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -16,12 +21,54 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 public class RabbitMQConfig {
 
     public static final String EXCHANGE_NAME = "chat.exchange";
+    public static final String PRESENCE_EXCHANGE_NAME = "presence.exchange";
+    public static final String USER_CACHE_EXCHANGE_NAME = "user-cache.exchange";
 
     @Bean
     public DirectExchange chatExchange() {
         return new DirectExchange(EXCHANGE_NAME, true, false);
     }
 
+    /**
+     * Fanout exchange every instance publishes its presence changes to
+     */
+    @Bean
+    public FanoutExchange presenceExchange() {
+        return new FanoutExchange(PRESENCE_EXCHANGE_NAME, true, false);
+    }
+
+    /**
+     * Per-instance exclusive queue, removed by the broker when the instance goes away.
+     * The other instances notice through missed presence heartbeats, see PresenceService.
+     */
+    @Bean
+    public Queue presenceQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding presenceBinding() {
+        return BindingBuilder.bind(presenceQueue()).to(presenceExchange());
+    }
+
+    /**
+     * Fanout exchange carrying user cache invalidations between instances
+     */
+    @Bean
+    public FanoutExchange userCacheExchange() {
+        return new FanoutExchange(USER_CACHE_EXCHANGE_NAME, true, false);
+    }
+
+    @Bean
+    public Queue userCacheQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userCacheBinding() {
+        return BindingBuilder.bind(userCacheQueue()).to(userCacheExchange());
+    }
+
     @Bean
     public RabbitAdmin rabbitAdmin(ConnectionFactory connectionFactory) {
         return new RabbitAdmin(connectionFactory);
@@ -1,9 +1,11 @@
 package com.chatapp.config;
 
 import com.chatapp.model.User;
-import com.chatapp.repository.UserRepository;
+import com.chatapp.service.UserCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,14 +14,19 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final List<String> adminUsernames;
 
-    public SecurityConfig(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public SecurityConfig(UserCache userCache,
+                          @Value("${chat.admin.usernames:}") List<String> adminUsernames) {
+        this.userCache = userCache;
+        this.adminUsernames = adminUsernames;
     }
 
     @Bean
@@ -27,8 +34,11 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Bulk operations such as /api/admin/users/import
+                        .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
                         .anyRequest().permitAll()
-                );
+                )
+                .httpBasic(Customizer.withDefaults());
 
         return http.build();
     }
@@ -41,13 +51,15 @@ public class SecurityConfig {
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> {
-            User user = userRepository.findByUsername(username)
+            User user = userCache.findByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
             return org.springframework.security.core.userdetails.User
                     .withUsername(user.getUsername())
                     .password(user.getPassword())
-                    .authorities("USER")
+                    .authorities(adminUsernames.contains(user.getUsername())
+                            ? new String[]{"USER", "ADMIN"}
+                            : new String[]{"USER"})
                     .build();
         };
     }
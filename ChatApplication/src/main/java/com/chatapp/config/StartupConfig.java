@@ -0,0 +1,32 @@
+package com.chatapp.config;
+
+import com.chatapp.controller.WebSocketChatController;
+import com.chatapp.service.ChatService;
+import com.chatapp.service.PresenceService;
+import com.chatapp.service.UserCache;
+import com.chatapp.service.UserService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans that stay eager when spring.main.lazy-initialization is on (faststart profile).
+     * RabbitMQ and scheduled listeners are only registered once their bean exists,
+     * and the connect -> send -> deliver path should be built before the first handshake.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter chatHotPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                PresenceService.class,
+                UserCache.class,
+                UserService.class,
+                ChatService.class,
+                WebSocketEventListener.class,
+                WebSocketChatController.class,
+                StartupWarmup.class
+        );
+    }
+}
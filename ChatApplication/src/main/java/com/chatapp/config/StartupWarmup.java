@@ -0,0 +1,125 @@
+package com.chatapp.config;
+
+import com.chatapp.dto.ChatMessageDTO;
+import com.chatapp.dto.PresenceEventDTO;
+import com.chatapp.dto.PresenceUpdateDTO;
+import com.chatapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exercises the message hot paths while the context is still starting up.
+ *
+ * Runs after all singletons are created but before the web server starts
+ * accepting connections, so the first /ws handshakes after a rolling restart
+ * hit loaded classes, JIT-compiled serializers and open DB/RabbitMQ connections.
+ *
+ * The switches are read at runtime rather than as bean conditions, so the AOT build
+ * and the CDS training run share the same bean definitions. The training run keeps
+ * the serializer warm-up, so those classes land in the archive, and only turns off
+ * the DB/RabbitMQ part (chat.warmup.connections=false) because no infrastructure is up.
+ */
+@Component
+public class StartupWarmup implements SmartInitializingSingleton {
+
+    private final ObjectMapper objectMapper;
+    private final MessageConverter jsonMessageConverter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final ConnectionFactory connectionFactory;
+    private final boolean enabled;
+    private final boolean warmConnections;
+    private final int iterations;
+
+    public StartupWarmup(ObjectMapper objectMapper,
+                         MessageConverter jsonMessageConverter,
+                         SimpMessagingTemplate messagingTemplate,
+                         PasswordEncoder passwordEncoder,
+                         UserRepository userRepository,
+                         ConnectionFactory connectionFactory,
+                         @Value("${chat.warmup.enabled:false}") boolean enabled,
+                         @Value("${chat.warmup.connections:true}") boolean warmConnections,
+                         @Value("${chat.warmup.iterations:2000}") int iterations) {
+        this.objectMapper = objectMapper;
+        this.jsonMessageConverter = jsonMessageConverter;
+        this.messagingTemplate = messagingTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.connectionFactory = connectionFactory;
+        this.enabled = enabled;
+        this.warmConnections = warmConnections;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+
+        try {
+            warmSerializers();
+        } catch (Exception e) {
+            System.err.println("Warm-up: serializers failed: " + e.getMessage());
+        }
+
+        // One BCrypt round loads the crypto classes used by the first login
+        passwordEncoder.matches("warmup", passwordEncoder.encode("warmup"));
+
+        if (warmConnections) {
+            warmConnections();
+        }
+
+        System.out.println("Startup warm-up finished in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void warmConnections() {
+        try {
+            // Opens the Hikari pool and prepares the query used by login and the user cache
+            userRepository.findByUsername("__warmup__");
+        } catch (RuntimeException e) {
+            System.err.println("Warm-up: database not reachable: " + e.getMessage());
+        }
+
+        try {
+            // Shared connection of the CachingConnectionFactory, reused by every listener container
+            connectionFactory.createConnection();
+        } catch (RuntimeException e) {
+            System.err.println("Warm-up: RabbitMQ not reachable: " + e.getMessage());
+        }
+    }
+
+    private void warmSerializers() throws Exception {
+        ChatMessageDTO chatMessage = new ChatMessageDTO("warmup", "warmup", "warm-up message", LocalDateTime.now());
+        PresenceUpdateDTO presenceUpdate = new PresenceUpdateDTO(List.of("warmup"), List.of());
+        PresenceEventDTO presenceEvent = new PresenceEventDTO(PresenceEventDTO.Type.JOIN, "warmup", 1L, "warmup", "warmup", null);
+
+        for (int i = 0; i < iterations; i++) {
+            // ChatService -> RabbitMQ
+            Message amqpMessage = jsonMessageConverter.toMessage(chatMessage, new MessageProperties());
+
+            // RabbitMQ -> UserService listener -> WebSocket
+            ChatMessageDTO received = objectMapper.readValue(new String(amqpMessage.getBody()), ChatMessageDTO.class);
+            messagingTemplate.getMessageConverter().toMessage(received, null);
+
+            // Presence events between instances and deltas to clients
+            Message presenceMessage = jsonMessageConverter.toMessage(presenceEvent, new MessageProperties());
+            objectMapper.readValue(presenceMessage.getBody(), PresenceEventDTO.class);
+            messagingTemplate.getMessageConverter().toMessage(presenceUpdate, null);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.chatapp.config;
 
+import com.chatapp.service.PresenceService;
+import com.chatapp.service.UserCache;
 import com.chatapp.service.UserService;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
@@ -13,9 +15,13 @@ import java.util.Map;
 public class WebSocketEventListener {
 
     private final UserService userService;
+    private final PresenceService presenceService;
+    private final UserCache userCache;
 
-    public WebSocketEventListener(UserService userService) {
+    public WebSocketEventListener(UserService userService, PresenceService presenceService, UserCache userCache) {
         this.userService = userService;
+        this.presenceService = presenceService;
+        this.userCache = userCache;
     }
 
     @EventListener
@@ -36,8 +42,13 @@ public class WebSocketEventListener {
             username = headerAccessor.getFirstNativeHeader("username");
         }
 
-        if (username != null) {
+        // The username header is client-supplied; only registered users are announced to everyone
+        if (username != null && userCache.findByUsername(username).isEmpty()) {
+            System.out.println("WebSocket CONNECTED with unknown username, ignoring: " + username);
+        } else if (username != null) {
             System.out.println("WebSocket CONNECTED: " + username);
+            // Presence first, so a concurrent disconnect of another tab sees this session
+            presenceService.sessionConnected(username, headerAccessor.getSessionId());
             userService.startListenerForUser(username);
         } else {
             System.out.println("NO USERNAME found in WebSocket connection");
@@ -46,16 +57,12 @@ public class WebSocketEventListener {
 
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
-        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-
-        String username = null;
-        Map<String, Object> sessionAttributes = headerAccessor.getSessionAttributes();
-        if (sessionAttributes != null) {
-            username = (String) sessionAttributes.get("username");
-        }
+        // Presence remembers which user owns the session, even when the username only came in a STOMP header
+        String username = presenceService.sessionDisconnected(event.getSessionId());
 
         if (username != null) {
             System.out.println("WebSocket DISCONNECTED: " + username);
+            // No-op while the user still has another tab open on this instance
             userService.stopListenerForUser(username);
         }
     }
@@ -31,7 +31,11 @@ public class ChatController {
             messageDTO.setTimestamp(LocalDateTime.now());
         }
 
-        chatService.sendMessage(messageDTO);
+        try {
+            chatService.sendMessage(messageDTO);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
 
         return ResponseEntity.ok().body(new MessageResponse("Message sent successfully"));
     }
@@ -1,6 +1,7 @@
 package com.chatapp.controller;
 
 import com.chatapp.service.UserService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -16,11 +17,16 @@ public class StartListenerController {
     }
 
     @PostMapping("/start-listener")
-    public void startListener(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> startListener(@RequestBody Map<String, String> body) {
         String username = body.get("username");
         if (username != null) {
             System.out.println("Starting listener for: " + username);
-            userService.startListenerForUser(username);
+            try {
+                userService.startListenerForUser(username);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
         }
+        return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -2,9 +2,13 @@ package com.chatapp.controller;
 
 import com.chatapp.model.User;
 import com.chatapp.repository.UserRepository;
+import com.chatapp.service.PresenceService;
+import com.chatapp.service.UserCache;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -12,9 +16,13 @@ import java.util.stream.Collectors;
 public class UserApiController {
 
     private final UserRepository userRepository;
+    private final PresenceService presenceService;
+    private final UserCache userCache;
 
-    public UserApiController(UserRepository userRepository) {
+    public UserApiController(UserRepository userRepository, PresenceService presenceService, UserCache userCache) {
         this.userRepository = userRepository;
+        this.presenceService = presenceService;
+        this.userCache = userCache;
     }
 
     @GetMapping("/users")
@@ -35,4 +43,15 @@ public class UserApiController {
                 .filter(username -> !username.equals(currentUser))
                 .collect(Collectors.toList());
     }
+
+    @GetMapping("/presence")
+    public Set<String> getOnlineUsers() {
+        // Initial snapshot; clients keep it current from /topic/presence deltas
+        return presenceService.getOnlineUsers();
+    }
+
+    @GetMapping("/users/cache-stats")
+    public Map<String, Object> getUserCacheStats() {
+        return userCache.getStats();
+    }
 }
\ No newline at end of file
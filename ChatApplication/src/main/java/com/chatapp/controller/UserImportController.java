@@ -0,0 +1,89 @@
+package com.chatapp.controller;
+
+import com.chatapp.dto.ImportRowResultDTO;
+import com.chatapp.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    public UserImportController(UserImportService userImportService, ObjectMapper objectMapper) {
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Bulk registration from a CSV (username,email,password) or JSON array body.
+     * Streams back one JSON line per input row, flushed after every batch.
+     * Requires the ADMIN authority (see SecurityConfig).
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+
+        UserImportService.ImportListener listener = new UserImportService.ImportListener() {
+            @Override
+            public void onRow(ImportRowResultDTO result) {
+                writeLine(writer, result);
+            }
+
+            @Override
+            public void onBatchComplete() {
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    // Client went away; abort the import, completed batches stay imported
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+        try {
+            boolean json = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+            System.out.println("Bulk import started (" + (json ? "JSON" : "CSV") + ")");
+
+            if (json) {
+                userImportService.importJson(request.getInputStream(), listener);
+            } else {
+                userImportService.importCsv(request.getInputStream(), listener);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Rows already reported stay imported; tell the client where the input broke
+            System.err.println("Bulk import failed: " + e.getMessage());
+            try {
+                writeLine(writer, Map.of("error", String.valueOf(e.getMessage())));
+                writer.flush();
+            } catch (IOException | UncheckedIOException clientGone) {
+                System.err.println("Bulk import: client disconnected");
+            }
+        }
+    }
+
+    private void writeLine(BufferedWriter writer, Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
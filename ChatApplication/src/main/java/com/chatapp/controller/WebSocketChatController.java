@@ -28,6 +28,10 @@ public class WebSocketChatController {
 
         System.out.println("WebSocket message: " + chatMessage.getFrom() + " -> " + chatMessage.getTo());
 
-        chatService.sendMessage(chatMessage);
+        try {
+            chatService.sendMessage(chatMessage);
+        } catch (RuntimeException e) {
+            System.err.println("WebSocket message rejected: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
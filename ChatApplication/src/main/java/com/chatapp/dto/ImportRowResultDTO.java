@@ -0,0 +1,26 @@
+package com.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one input row of a bulk user import
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRowResultDTO {
+
+    public enum Status {
+        IMPORTED,
+        FAILED
+    }
+
+    private int row;
+    private String username;
+    private Status status;
+    private String error;
+}
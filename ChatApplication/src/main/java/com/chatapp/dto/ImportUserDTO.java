@@ -0,0 +1,19 @@
+package com.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user row of a bulk import, as read from CSV or JSON
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportUserDTO {
+    private String username;
+    private String email;
+    private String password;
+}
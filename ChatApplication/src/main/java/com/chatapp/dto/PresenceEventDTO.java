@@ -0,0 +1,38 @@
+package com.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Presence change exchanged between instances over RabbitMQ
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresenceEventDTO {
+
+    public enum Type {
+        JOIN,       // a WebSocket session for username opened on instanceId
+        LEAVE,      // a WebSocket session for username closed on instanceId
+        HEARTBEAT,  // instanceId is alive; sessions is its complete local session set
+        SYNC,       // instanceId just started and wants everyone's heartbeat now
+        DOWN        // instanceId is shutting down, drop all of its sessions
+    }
+
+    private Type type;
+    private String instanceId;
+
+    // Increases with every event instanceId publishes, so receivers can drop ones that arrive late
+    private long seq;
+
+    private String username;
+    private String sessionId;
+
+    // HEARTBEAT only: sessionId -> username
+    private Map<String, String> sessions;
+}
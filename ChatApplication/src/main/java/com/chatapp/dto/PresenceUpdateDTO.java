@@ -0,0 +1,20 @@
+package com.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batched presence delta pushed to WebSocket clients on /topic/presence
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresenceUpdateDTO {
+    private List<String> joined;
+    private List<String> left;
+}
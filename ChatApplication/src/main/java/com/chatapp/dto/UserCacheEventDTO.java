@@ -0,0 +1,19 @@
+package com.chatapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tells the other instances to drop a user from their cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserCacheEventDTO {
+    private String instanceId;
+    private String username;
+    private String email;
+}
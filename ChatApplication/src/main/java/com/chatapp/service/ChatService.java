@@ -10,13 +10,20 @@ public class ChatService {
 
     private final RabbitTemplate rabbitTemplate;
     private final DirectExchange chatExchange;
+    private final UserQueueProvisioner queueProvisioner;
 
-    public ChatService(RabbitTemplate rabbitTemplate, DirectExchange chatExchange) {
+    public ChatService(RabbitTemplate rabbitTemplate, DirectExchange chatExchange,
+                       UserQueueProvisioner queueProvisioner) {
         this.rabbitTemplate = rabbitTemplate;
         this.chatExchange = chatExchange;
+        this.queueProvisioner = queueProvisioner;
     }
 
     public void sendMessage(ChatMessageDTO chatMessage) {
+        // Recipient may have been bulk-imported and never connected; make sure the message has somewhere to go.
+        // Throws if the recipient isn't a registered user.
+        queueProvisioner.ensureQueue(chatMessage.getTo());
+
         // Send the OBJECT directly, not JSON string
         // RabbitTemplate will serialize it automatically
         rabbitTemplate.convertAndSend(
@@ -0,0 +1,364 @@
+package com.chatapp.service;
+
+import com.chatapp.config.RabbitMQConfig;
+import com.chatapp.dto.PresenceEventDTO;
+import com.chatapp.dto.PresenceUpdateDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks which users are online across all instances.
+ *
+ * Every WebSocket session counts as one reference on its user, so a user stays
+ * online until the last tab on the last instance is closed. Local changes are
+ * fanned out to the other instances through RabbitMQ, and the resulting
+ * joined/left transitions are flushed to clients as one batched delta per
+ * interval, so a reconnect storm costs a handful of frames instead of one per user.
+ *
+ * Each instance also sends a periodic heartbeat with its full session set. A
+ * heartbeat replaces what we knew about that instance, and an instance that
+ * misses several heartbeats (crash, kill -9, partition) has its sessions dropped.
+ *
+ * JOIN/LEAVE and heartbeats are published from different threads, so they can
+ * arrive out of order. Every event carries a per-instance sequence number and
+ * anything older than the last event applied for that instance is ignored.
+ */
+@Service
+public class PresenceService {
+
+    public static final String PRESENCE_TOPIC = "/topic/presence";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long instanceTimeoutMs;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Sequence number of the last event this instance published
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Held while changing local sessions and numbering the event that announces the change,
+    // so a heartbeat snapshot never gets a higher number than a change it doesn't contain
+    private final Object localLock = new Object();
+
+    // username -> "instanceId/sessionId" of every open session, cluster-wide
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+
+    // sessionId -> username, for sessions opened on this instance only
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+
+    // username -> number of sessions open on this instance
+    private final Map<String, Integer> localSessionCounts = new ConcurrentHashMap<>();
+
+    // What we last heard from every other instance; guarded by itself
+    private final Map<String, RemoteInstance> remoteInstances = new HashMap<>();
+
+    // Users whose session count changed since the last flush
+    private final Set<String> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    // What clients have been told so far; only touched inside flush()
+    private final Set<String> broadcastOnline = new HashSet<>();
+
+    public PresenceService(RabbitTemplate rabbitTemplate,
+                           SimpMessagingTemplate messagingTemplate,
+                           @Value("${chat.presence.heartbeat-interval-ms:5000}") long heartbeatIntervalMs,
+                           @Value("${chat.presence.missed-heartbeats:3}") int missedHeartbeats) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.instanceTimeoutMs = heartbeatIntervalMs * missedHeartbeats;
+    }
+
+    /**
+     * Registers a new local session for username.
+     */
+    public void sessionConnected(String username, String sessionId) {
+        PresenceEventDTO event;
+        synchronized (localLock) {
+            if (localSessions.putIfAbsent(sessionId, username) != null) {
+                return;
+            }
+            localSessionCounts.merge(username, 1, Integer::sum);
+            addSession(username, sessionKey(instanceId, sessionId));
+            event = sequenced(PresenceEventDTO.builder()
+                    .type(PresenceEventDTO.Type.JOIN)
+                    .username(username)
+                    .sessionId(sessionId));
+        }
+        publish(event);
+    }
+
+    /**
+     * Releases a local session.
+     *
+     * @return the username the session belonged to, or null if it was unknown
+     */
+    public String sessionDisconnected(String sessionId) {
+        String username;
+        PresenceEventDTO event;
+        synchronized (localLock) {
+            username = localSessions.remove(sessionId);
+            if (username == null) {
+                return null;
+            }
+            localSessionCounts.computeIfPresent(username, (u, count) -> count > 1 ? count - 1 : null);
+            removeSession(username, sessionKey(instanceId, sessionId));
+            event = sequenced(PresenceEventDTO.builder()
+                    .type(PresenceEventDTO.Type.LEAVE)
+                    .username(username)
+                    .sessionId(sessionId));
+        }
+        publish(event);
+        return username;
+    }
+
+    /**
+     * Whether username still has an open session on this instance
+     */
+    public boolean hasLocalSession(String username) {
+        return localSessionCounts.containsKey(username);
+    }
+
+    public Set<String> getOnlineUsers() {
+        return new TreeSet<>(sessionsByUser.keySet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestSync() {
+        // Ask the running instances for an immediate heartbeat instead of waiting a full interval
+        publish(sequenced(PresenceEventDTO.builder().type(PresenceEventDTO.Type.SYNC)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Best effort; if this never arrives the other instances time us out
+        publish(sequenced(PresenceEventDTO.builder().type(PresenceEventDTO.Type.DOWN)));
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        publishHeartbeat();
+        expireInstances(System.currentTimeMillis());
+    }
+
+    @RabbitListener(queues = "#{presenceQueue.name}")
+    public void onPresenceEvent(PresenceEventDTO event) {
+        if (instanceId.equals(event.getInstanceId())) {
+            return; // our own change, already applied
+        }
+
+        switch (event.getType()) {
+            case JOIN -> remoteJoin(event.getInstanceId(), event.getSeq(), event.getSessionId(), event.getUsername());
+            case LEAVE -> remoteLeave(event.getInstanceId(), event.getSeq(), event.getSessionId());
+            case HEARTBEAT -> replaceSessions(event.getInstanceId(), event.getSeq(), event.getSessions());
+            case SYNC -> publishHeartbeat();
+            case DOWN -> dropInstance(event.getInstanceId());
+        }
+    }
+
+    /**
+     * Drops every instance not heard from within the configured number of heartbeats.
+     */
+    void expireInstances(long now) {
+        List<String> expired = new ArrayList<>();
+        synchronized (remoteInstances) {
+            remoteInstances.forEach((id, remote) -> {
+                if (now - remote.lastSeen > instanceTimeoutMs) {
+                    expired.add(id);
+                }
+            });
+        }
+
+        for (String id : expired) {
+            System.out.println("Presence: instance " + id + " missed its heartbeats");
+            dropInstance(id);
+        }
+    }
+
+    /**
+     * Pushes the net joined/left changes since the last flush as a single frame.
+     * A user who dropped and came back within the same interval produces nothing.
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (dirtyUsers.isEmpty()) {
+            return;
+        }
+
+        List<String> joined = new ArrayList<>();
+        List<String> left = new ArrayList<>();
+
+        for (String username : new ArrayList<>(dirtyUsers)) {
+            dirtyUsers.remove(username);
+            if (sessionsByUser.containsKey(username)) {
+                if (broadcastOnline.add(username)) {
+                    joined.add(username);
+                }
+            } else if (broadcastOnline.remove(username)) {
+                left.add(username);
+            }
+        }
+
+        if (joined.isEmpty() && left.isEmpty()) {
+            return;
+        }
+
+        messagingTemplate.convertAndSend(PRESENCE_TOPIC, new PresenceUpdateDTO(joined, left));
+        System.out.println("Presence update: +" + joined.size() + " -" + left.size());
+    }
+
+    private void remoteJoin(String remoteId, long seq, String sessionId, String username) {
+        synchronized (remoteInstances) {
+            RemoteInstance remote = seen(remoteId);
+            if (!remote.apply(seq)) {
+                return;
+            }
+            if (remote.sessions.put(sessionId, username) == null) {
+                addSession(username, sessionKey(remoteId, sessionId));
+            }
+        }
+    }
+
+    private void remoteLeave(String remoteId, long seq, String sessionId) {
+        synchronized (remoteInstances) {
+            RemoteInstance remote = seen(remoteId);
+            if (!remote.apply(seq)) {
+                return;
+            }
+            String username = remote.sessions.remove(sessionId);
+            if (username != null) {
+                removeSession(username, sessionKey(remoteId, sessionId));
+            }
+        }
+    }
+
+    /**
+     * A heartbeat is the remote instance's complete session set, so it replaces
+     * whatever we had for it, including sessions whose LEAVE we never received.
+     */
+    private void replaceSessions(String remoteId, long seq, Map<String, String> sessions) {
+        Map<String, String> current = sessions != null ? sessions : Map.of();
+        synchronized (remoteInstances) {
+            RemoteInstance remote = seen(remoteId);
+            if (!remote.apply(seq)) {
+                return;
+            }
+            Map<String, String> known = remote.sessions;
+
+            known.entrySet().removeIf(entry -> {
+                if (entry.getValue().equals(current.get(entry.getKey()))) {
+                    return false;
+                }
+                removeSession(entry.getValue(), sessionKey(remoteId, entry.getKey()));
+                return true;
+            });
+
+            current.forEach((sessionId, username) -> {
+                if (known.putIfAbsent(sessionId, username) == null) {
+                    addSession(username, sessionKey(remoteId, sessionId));
+                }
+            });
+        }
+    }
+
+    private void dropInstance(String remoteId) {
+        RemoteInstance remote;
+        synchronized (remoteInstances) {
+            remote = remoteInstances.remove(remoteId);
+            if (remote == null) {
+                return;
+            }
+            remote.sessions.forEach((sessionId, username) ->
+                    removeSession(username, sessionKey(remoteId, sessionId)));
+        }
+        System.out.println("Presence: dropped " + remote.sessions.size() + " sessions of instance " + remoteId);
+    }
+
+    // Caller holds the remoteInstances lock
+    private RemoteInstance seen(String remoteId) {
+        RemoteInstance remote = remoteInstances.computeIfAbsent(remoteId, id -> new RemoteInstance());
+        remote.lastSeen = System.currentTimeMillis();
+        return remote;
+    }
+
+    private void addSession(String username, String key) {
+        sessionsByUser.compute(username, (u, sessions) -> {
+            if (sessions == null) {
+                sessions = ConcurrentHashMap.newKeySet();
+            }
+            sessions.add(key);
+            return sessions;
+        });
+        dirtyUsers.add(username);
+    }
+
+    private void removeSession(String username, String key) {
+        sessionsByUser.computeIfPresent(username, (u, sessions) -> {
+            sessions.remove(key);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        dirtyUsers.add(username);
+    }
+
+    private void publishHeartbeat() {
+        PresenceEventDTO event;
+        synchronized (localLock) {
+            event = sequenced(PresenceEventDTO.builder()
+                    .type(PresenceEventDTO.Type.HEARTBEAT)
+                    .sessions(new HashMap<>(localSessions)));
+        }
+        publish(event);
+    }
+
+    private PresenceEventDTO sequenced(PresenceEventDTO.PresenceEventDTOBuilder event) {
+        return event.instanceId(instanceId).seq(sequence.incrementAndGet()).build();
+    }
+
+    private void publish(PresenceEventDTO event) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PRESENCE_EXCHANGE_NAME, "", event);
+        } catch (Exception e) {
+            // Local presence is already updated; other instances catch up on our next heartbeat
+            System.err.println("Error publishing presence event: " + e.getMessage());
+        }
+    }
+
+    private static String sessionKey(String instanceId, String sessionId) {
+        return instanceId + "/" + sessionId;
+    }
+
+    private static class RemoteInstance {
+        private final Map<String, String> sessions = new HashMap<>();
+        private long lastSeen;
+        private long lastSeq;
+
+        /**
+         * Whether an event numbered seq is newer than everything applied so far;
+         * if so it becomes the newest.
+         */
+        boolean apply(long seq) {
+            if (seq <= lastSeq) {
+                return false;
+            }
+            lastSeq = seq;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.chatapp.service;
+
+import com.chatapp.config.RabbitMQConfig;
+import com.chatapp.dto.UserCacheEventDTO;
+import com.chatapp.model.User;
+import com.chatapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache in front of {@link UserRepository} for the login,
+ * registration and Spring Security lookups.
+ *
+ * Entries are immutable snapshots and every lookup returns a fresh {@link User},
+ * so callers can't change what other callers see.
+ *
+ * Only users that exist are cached, so a name registered on another instance
+ * is never hidden behind a stale "not found". Writes go through to the cache
+ * and are announced to the other instances over RabbitMQ so they drop their copy.
+ */
+@Service
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final RabbitTemplate rabbitTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Cache<String, CachedUser> byUsername;
+    private final Cache<String, CachedUser> byEmail;
+
+    public UserCache(UserRepository userRepository,
+                     RabbitTemplate rabbitTemplate,
+                     @Value("${chat.user-cache.max-size:10000}") long maxSize,
+                     @Value("${chat.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.byUsername = newCache(maxSize, ttlSeconds);
+        this.byEmail = newCache(maxSize, ttlSeconds);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        CachedUser cached = byUsername.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+
+        Optional<User> loaded = userRepository.findByUsername(username);
+        loaded.ifPresent(this::cache);
+        return loaded;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        CachedUser cached = byEmail.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+
+        Optional<User> loaded = userRepository.findByEmail(email);
+        loaded.ifPresent(this::cache);
+        return loaded;
+    }
+
+    /**
+     * Write-through after the user has been saved.
+     */
+    public void put(User user) {
+        cache(user);
+        publishInvalidation(user);
+    }
+
+    /**
+     * Drops the user here and on every other instance, e.g. after an update.
+     */
+    public void evict(User user) {
+        invalidate(user.getUsername(), user.getEmail());
+        publishInvalidation(user);
+    }
+
+    @RabbitListener(queues = "#{userCacheQueue.name}")
+    public void onInvalidation(UserCacheEventDTO event) {
+        if (instanceId.equals(event.getInstanceId())) {
+            return; // our own write, cache already up to date
+        }
+        invalidate(event.getUsername(), event.getEmail());
+    }
+
+    /**
+     * Hit/miss/eviction counters for tuning max-size and TTL
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("byUsername", describe(byUsername));
+        stats.put("byEmail", describe(byEmail));
+        return stats;
+    }
+
+    private void cache(User user) {
+        CachedUser cached = CachedUser.of(user);
+        byUsername.put(cached.username(), cached);
+        byEmail.put(cached.email(), cached);
+    }
+
+    private void invalidate(String username, String email) {
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+
+    private void publishInvalidation(User user) {
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.USER_CACHE_EXCHANGE_NAME,
+                    "",
+                    new UserCacheEventDTO(instanceId, user.getUsername(), user.getEmail())
+            );
+        } catch (Exception e) {
+            // Other instances fall back to the TTL
+            System.err.println("Error publishing user cache invalidation: " + e.getMessage());
+        }
+    }
+
+    private static Cache<String, CachedUser> newCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private static Map<String, Object> describe(Cache<String, CachedUser> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private record CachedUser(UUID id, String username, String email, String password) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
+        }
+
+        User toUser() {
+            return new User(id, username, email, password);
+        }
+    }
+}
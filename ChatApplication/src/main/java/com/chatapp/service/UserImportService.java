@@ -0,0 +1,305 @@
+package com.chatapp.service;
+
+import com.chatapp.dto.ImportRowResultDTO;
+import com.chatapp.dto.ImportUserDTO;
+import com.chatapp.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import for onboarding whole organizations.
+ *
+ * Rows are streamed from the input and handled in batches: one uniqueness query
+ * per batch, BCrypt hashing on a dedicated thread pool, and a single JDBC batch insert.
+ * No RabbitMQ queue is declared here; {@link UserQueueProvisioner} does that on first use.
+ */
+@Service
+public class UserImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (id, username, email, password) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Receives the outcome of every row, and a signal after each batch so
+     * results can be pushed to the client as they happen.
+     */
+    public interface ImportListener {
+        void onRow(ImportRowResultDTO result);
+
+        void onBatchComplete();
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    // Kept apart from the common pool so an import can't starve parallel streams elsewhere
+    private final ExecutorService hashingExecutor;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${chat.import.batch-size:1000}") int batchSize,
+                             @Value("${chat.import.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        // 0 = half the cores, leaving the rest for chat traffic while an import runs
+        this.hashingExecutor = Executors.newFixedThreadPool(hashThreads > 0
+                ? hashThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    /**
+     * Imports CSV with columns username,email,password. A header row is optional.
+     * The password is the last column, so it may contain commas.
+     * Fields are taken verbatim: quoting isn't supported, so rows containing
+     * a double quote fail instead of importing names or passwords with quotes in them.
+     */
+    public int importCsv(InputStream in, ImportListener listener) throws IOException {
+        ImportRun run = new ImportRun(listener);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (row == 1 && line.startsWith("\uFEFF")) {
+                // Byte order mark left in by Excel and friends
+                line = line.substring(1);
+            }
+            if (line.isBlank() || (row == 1 && line.toLowerCase().startsWith("username,"))) {
+                continue;
+            }
+
+            String[] columns = line.split(",", 3);
+            if (line.indexOf('"') >= 0) {
+                run.fail(row, columns[0].trim(), "Quoted fields are not supported");
+                continue;
+            }
+            if (columns.length < 3) {
+                run.fail(row, columns[0].trim(), "Expected username,email,password");
+                continue;
+            }
+            run.add(row, new ImportUserDTO(columns[0].trim(), columns[1].trim(), columns[2]));
+        }
+
+        return run.finish();
+    }
+
+    /**
+     * Imports a JSON array of {username, email, password} objects, parsed one element at a time.
+     * An element that is not a valid user object fails its own row and the import carries on.
+     */
+    public int importJson(InputStream in, ImportListener listener) throws IOException {
+        ImportRun run = new ImportRun(listener);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of users");
+            }
+
+            int row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                row++;
+                // Reading the whole element as a tree leaves the parser on the next one whatever it contains
+                JsonNode element = objectMapper.readTree(parser);
+                if (element == null || !element.isObject()) {
+                    run.fail(row, null, "Expected a JSON object");
+                    continue;
+                }
+
+                try {
+                    run.add(row, objectMapper.treeToValue(element, ImportUserDTO.class));
+                } catch (JsonProcessingException e) {
+                    JsonNode username = element.path("username");
+                    run.fail(row, username.isTextual() ? username.asText() : null,
+                            "Invalid user: " + e.getOriginalMessage());
+                }
+            }
+        }
+
+        return run.finish();
+    }
+
+    private record PendingRow(int row, ImportUserDTO input) {
+    }
+
+    private record InsertRow(int row, UUID id, String username, String email, String passwordHash) {
+    }
+
+    /**
+     * State of a single import: the current batch, plus every username and email
+     * seen so far so duplicates inside the file are caught before they reach the database.
+     */
+    private class ImportRun {
+
+        private final ImportListener listener;
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private List<PendingRow> batch = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        ImportRun(ImportListener listener) {
+            this.listener = listener;
+        }
+
+        void add(int row, ImportUserDTO user) {
+            if (isBlank(user.getUsername()) || isBlank(user.getEmail()) || isBlank(user.getPassword())) {
+                fail(row, user.getUsername(), "Username, email and password are required");
+                return;
+            }
+            if (!seenUsernames.add(user.getUsername())) {
+                fail(row, user.getUsername(), "Duplicate username in import");
+                return;
+            }
+            if (!seenEmails.add(user.getEmail())) {
+                fail(row, user.getUsername(), "Duplicate email in import");
+                return;
+            }
+
+            batch.add(new PendingRow(row, user));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        int finish() {
+            flush();
+            listener.onBatchComplete();
+            System.out.println("Bulk import finished: " + imported + " imported, " + failed + " failed");
+            return imported;
+        }
+
+        void succeed(InsertRow insert) {
+            imported++;
+            listener.onRow(new ImportRowResultDTO(insert.row(), insert.username(),
+                    ImportRowResultDTO.Status.IMPORTED, null));
+        }
+
+        void fail(int row, String username, String error) {
+            failed++;
+            listener.onRow(new ImportRowResultDTO(row, username, ImportRowResultDTO.Status.FAILED, error));
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PendingRow> pending = batch;
+            batch = new ArrayList<>();
+
+            Set<String> takenUsernames = userRepository.findExistingUsernames(
+                    pending.stream().map(p -> p.input().getUsername()).collect(Collectors.toList()));
+            Set<String> takenEmails = userRepository.findExistingEmails(
+                    pending.stream().map(p -> p.input().getEmail()).collect(Collectors.toList()));
+
+            List<PendingRow> accepted = new ArrayList<>(pending.size());
+            for (PendingRow p : pending) {
+                if (takenUsernames.contains(p.input().getUsername())) {
+                    fail(p.row(), p.input().getUsername(), "Username already exists");
+                } else if (takenEmails.contains(p.input().getEmail())) {
+                    fail(p.row(), p.input().getUsername(), "Email already exists");
+                } else {
+                    accepted.add(p);
+                }
+            }
+
+            List<InsertRow> inserts = hash(accepted);
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, insert) -> {
+                            ps.setObject(1, insert.id());
+                            ps.setString(2, insert.username());
+                            ps.setString(3, insert.email());
+                            ps.setString(4, insert.passwordHash());
+                        }));
+                inserts.forEach(this::succeed);
+            } catch (DataIntegrityViolationException e) {
+                // Someone registered one of these names since the check; fall back to row-by-row to find it
+                for (InsertRow insert : inserts) {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, insert.id(), insert.username(),
+                                insert.email(), insert.passwordHash());
+                        succeed(insert);
+                    } catch (DataIntegrityViolationException rowError) {
+                        fail(insert.row(), insert.username(), "Username or email already exists");
+                    }
+                }
+            }
+
+            listener.onBatchComplete();
+            System.out.println("Bulk import progress: " + imported + " imported, " + failed + " failed");
+        }
+
+        // BCrypt dominates the cost of an import, so hash the batch on the import pool
+        private List<InsertRow> hash(List<PendingRow> rows) {
+            List<Callable<InsertRow>> tasks = new ArrayList<>(rows.size());
+            for (PendingRow p : rows) {
+                tasks.add(() -> new InsertRow(p.row(), UUID.randomUUID(), p.input().getUsername(),
+                        p.input().getEmail(), passwordEncoder.encode(p.input().getPassword())));
+            }
+
+            try {
+                List<InsertRow> inserts = new ArrayList<>(rows.size());
+                for (Future<InsertRow> future : hashingExecutor.invokeAll(tasks)) {
+                    inserts.add(future.get());
+                }
+                return inserts;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Import interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Password hashing failed: " + e.getCause().getMessage());
+            }
+        }
+
+        private boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.chatapp.service;
+
+import org.springframework.amqp.core.*;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Declares a user's queue and binding the first time it is needed
+ * (first connect or first message addressed to the user) instead of at registration.
+ *
+ * Every caller (chat messages, STOMP connects, /api/start-listener) passes a
+ * client-supplied name, so only registered users get a queue.
+ */
+@Service
+public class UserQueueProvisioner {
+
+    private final AmqpAdmin amqpAdmin;
+    private final DirectExchange chatExchange;
+    private final UserCache userCache;
+
+    // Users whose queue this instance already declared; declaring is idempotent but costs a broker round trip
+    private final Set<String> provisioned = ConcurrentHashMap.newKeySet();
+
+    public UserQueueProvisioner(AmqpAdmin amqpAdmin, DirectExchange chatExchange, UserCache userCache) {
+        this.amqpAdmin = amqpAdmin;
+        this.chatExchange = chatExchange;
+        this.userCache = userCache;
+    }
+
+    public String ensureQueue(String username) {
+        String queueName = queueName(username);
+        if (provisioned.contains(username)) {
+            return queueName;
+        }
+
+        // Otherwise any client could create durable queues at will
+        if (userCache.findByUsername(username).isEmpty()) {
+            throw new RuntimeException("User does not exist");
+        }
+
+        Queue queue = new Queue(queueName, true);
+        amqpAdmin.declareQueue(queue);
+
+        Binding binding = BindingBuilder.bind(queue).to(chatExchange).with(username);
+        amqpAdmin.declareBinding(binding);
+
+        provisioned.add(username);
+        System.out.println("Queue provisioned for: " + username);
+        return queueName;
+    }
+
+    public static String queueName(String username) {
+        return username + ".queue";
+    }
+}
@@ -19,51 +19,58 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class UserService {
 
-    private final AmqpAdmin amqpAdmin;
-    private final DirectExchange chatExchange;
     private final RabbitTemplate rabbitTemplate;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final SimpMessagingTemplate messagingTemplate; // WebSocket sender
     private final ObjectMapper objectMapper;
     private final ConnectionFactory connectionFactory;
+    private final UserQueueProvisioner queueProvisioner;
+    private final UserCache userCache;
+    private final PresenceService presenceService;
 
     private final Map<String, SimpleMessageListenerContainer> activeListeners = new ConcurrentHashMap<>();
 
+    // One lock per user for starting/stopping listeners, so broker I/O for one user never blocks another
+    private final Map<String, Object> listenerLocks = new ConcurrentHashMap<>();
+
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       AmqpAdmin amqpAdmin,
-                       DirectExchange chatExchange,
                        RabbitTemplate rabbitTemplate,
                        SimpMessagingTemplate messagingTemplate,
                        ObjectMapper objectMapper,
-                       ConnectionFactory connectionFactory) {
+                       ConnectionFactory connectionFactory,
+                       UserQueueProvisioner queueProvisioner,
+                       UserCache userCache,
+                       PresenceService presenceService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.amqpAdmin = amqpAdmin;
-        this.chatExchange = chatExchange;
         this.rabbitTemplate = rabbitTemplate;
         this.messagingTemplate = messagingTemplate;
         this.objectMapper = objectMapper;
         this.connectionFactory = connectionFactory;
+        this.queueProvisioner = queueProvisioner;
+        this.userCache = userCache;
+        this.presenceService = presenceService;
     }
 
     public void register(User user) {
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
+        if (userCache.findByUsername(user.getUsername()).isPresent()) {
             throw new RuntimeException("Username already exists");
         }
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        if (userCache.findByEmail(user.getEmail()).isPresent()) {
             throw new RuntimeException("Email already exists");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
+        userCache.put(user);
 
         // Create queue and listener
-        createUserQueueAndListener(user.getUsername());
+        startListenerForUser(user.getUsername());
     }
 
     public User login(String username, String password) {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
 
         if (!passwordEncoder.matches(password, user.getPassword())) {
@@ -74,14 +81,8 @@ public class UserService {
     }
 
     // Create RabbitMQ queue and listener that pushes to WebSocket
-    private void createUserQueueAndListener(String username) {
-        String queueName = username + ".queue";
-
-        Queue queue = new Queue(queueName, true);
-        amqpAdmin.declareQueue(queue);
-
-        Binding binding = BindingBuilder.bind(queue).to(chatExchange).with(username);
-        amqpAdmin.declareBinding(binding);
+    private SimpleMessageListenerContainer createUserQueueAndListener(String username) {
+        String queueName = queueProvisioner.ensureQueue(username);
 
         SimpleMessageListenerContainer container = new SimpleMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
@@ -108,21 +109,40 @@ public class UserService {
         });
         container.start();
 
-        activeListeners.put(username, container);
         System.out.println("Listener created for: " + username);
+        return container;
     }
 
+    // Start and stop are serialised per user, so a disconnect of an old tab
+    // can't stop the listener a freshly connected tab just started relying on
     public void startListenerForUser(String username) {
-        if (!activeListeners.containsKey(username)) {
-            createUserQueueAndListener(username);
+        synchronized (listenerLock(username)) {
+            if (!activeListeners.containsKey(username)) {
+                activeListeners.put(username, createUserQueueAndListener(username));
+            }
         }
     }
 
+    /**
+     * Stops the user's listener unless they still have a WebSocket session on this instance.
+     */
     public void stopListenerForUser(String username) {
-        SimpleMessageListenerContainer container = activeListeners.get(username);
+        SimpleMessageListenerContainer container;
+        synchronized (listenerLock(username)) {
+            if (presenceService.hasLocalSession(username)) {
+                return;
+            }
+            container = activeListeners.remove(username);
+        }
+
+        // stop() waits for in-flight deliveries (up to the shutdown timeout), so do it outside the lock
         if (container != null) {
             container.stop();
-            activeListeners.remove(username);
+            System.out.println("Listener stopped for: " + username);
         }
     }
+
+    private Object listenerLock(String username) {
+        return listenerLocks.computeIfAbsent(username, u -> new Object());
+    }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ document.getElementById('logged-user').textContent = currentUser;
 
 let stompClient = null;
 let selectedUser = null;
+const onlineUsers = new Set();
 
 function connect() {
     const socket = new SockJS('/ws');
@@ -49,6 +50,11 @@ function connect() {
             }
         });
 
+        // Presence deltas: subscribe before loading the snapshot so no change is missed
+        stompClient.subscribe('/topic/presence', function(message) {
+            applyPresence(JSON.parse(message.body));
+        });
+
         loadUsers();
     }, function(error) {
         console.error('Connection error:', error);
@@ -58,8 +64,13 @@ function connect() {
 
 async function loadUsers() {
     try {
-        const response = await fetch('/api/users?currentUser=' + currentUser);
-        const users = await response.json();
+        const [usersResponse, presenceResponse] = await Promise.all([
+            fetch('/api/users?currentUser=' + currentUser),
+            fetch('/api/presence')
+        ]);
+        const users = await usersResponse.json();
+        (await presenceResponse.json()).forEach(user => onlineUsers.add(user));
+
         const usersList = document.getElementById('users-list');
         usersList.innerHTML = '';
 
@@ -68,21 +79,54 @@ async function loadUsers() {
             return;
         }
 
-        users.forEach(user => {
-            const userDiv = document.createElement('div');
-            userDiv.className = 'user-item';
-            userDiv.innerHTML = `
-                <span class="user-status online"></span>
-                <span>${user}</span>
-            `;
-            userDiv.onclick = () => selectUser(user, userDiv);
-            usersList.appendChild(userDiv);
-        });
+        users.forEach(addUserRow);
     } catch (error) {
         console.error('Error:', error);
     }
 }
 
+function addUserRow(user) {
+    const usersList = document.getElementById('users-list');
+    const emptyState = usersList.querySelector('.empty-state');
+    if (emptyState) emptyState.remove();
+
+    const userDiv = document.createElement('div');
+    userDiv.className = 'user-item';
+    if (user === selectedUser) userDiv.classList.add('active');
+    userDiv.dataset.username = user;
+
+    const status = document.createElement('span');
+    status.className = 'user-status';
+    status.classList.toggle('online', onlineUsers.has(user));
+
+    // Usernames come from other clients, never treat them as HTML
+    const name = document.createElement('span');
+    name.textContent = user;
+
+    userDiv.append(status, name);
+    userDiv.onclick = () => selectUser(user, userDiv);
+    usersList.appendChild(userDiv);
+}
+
+function applyPresence(update) {
+    update.joined.forEach(user => {
+        onlineUsers.add(user);
+        // Someone registered after the list was loaded: add just their row
+        if (!setStatus(user, true) && user !== currentUser) addUserRow(user);
+    });
+    update.left.forEach(user => {
+        onlineUsers.delete(user);
+        setStatus(user, false);
+    });
+}
+
+function setStatus(username, online) {
+    const userDiv = document.querySelector(`.user-item[data-username="${CSS.escape(username)}"]`);
+    if (!userDiv) return false;
+    userDiv.querySelector('.user-status').classList.toggle('online', online);
+    return true;
+}
+
 function selectUser(username, element) {
     selectedUser = username;
     document.querySelectorAll('.user-item').forEach(item => {
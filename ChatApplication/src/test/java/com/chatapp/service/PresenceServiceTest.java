@@ -0,0 +1,180 @@
+package com.chatapp.service;
+
+import com.chatapp.dto.PresenceEventDTO;
+import com.chatapp.dto.PresenceUpdateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PresenceServiceTest {
+
+    private static final long HEARTBEAT_MS = 1000;
+
+    private SimpMessagingTemplate messagingTemplate;
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        presenceService = new PresenceService(mock(RabbitTemplate.class), messagingTemplate, HEARTBEAT_MS, 3);
+    }
+
+    @Test
+    void secondTabKeepsUserOnline() {
+        presenceService.sessionConnected("alice", "s1");
+        presenceService.sessionConnected("alice", "s2");
+        presenceService.flush();
+
+        presenceService.sessionDisconnected("s1");
+        presenceService.flush();
+
+        assertEquals(List.of(new PresenceUpdateDTO(List.of("alice"), List.of())), sentUpdates());
+        assertTrue(presenceService.hasLocalSession("alice"));
+        assertEquals(Set.of("alice"), presenceService.getOnlineUsers());
+
+        presenceService.sessionDisconnected("s2");
+        presenceService.flush();
+
+        assertFalse(presenceService.hasLocalSession("alice"));
+        assertEquals(new PresenceUpdateDTO(List.of(), List.of("alice")), sentUpdates().get(1));
+    }
+
+    @Test
+    void leaveAndRejoinWithinOneIntervalSendsNothing() {
+        presenceService.sessionConnected("alice", "s1");
+        presenceService.flush();
+
+        presenceService.sessionDisconnected("s1");
+        presenceService.sessionConnected("alice", "s2");
+        presenceService.flush();
+
+        assertEquals(1, sentUpdates().size());
+    }
+
+    @Test
+    void downDropsOnlyThatInstancesSessions() {
+        presenceService.onPresenceEvent(join("A", 1, "a1", "bob"));
+        presenceService.onPresenceEvent(join("A", 2, "a2", "carol"));
+        presenceService.onPresenceEvent(join("B", 1, "b1", "bob"));
+        presenceService.sessionConnected("carol", "local");
+
+        presenceService.onPresenceEvent(PresenceEventDTO.builder()
+                .type(PresenceEventDTO.Type.DOWN)
+                .instanceId("A")
+                .build());
+
+        assertEquals(Set.of("bob", "carol"), presenceService.getOnlineUsers());
+
+        presenceService.onPresenceEvent(PresenceEventDTO.builder()
+                .type(PresenceEventDTO.Type.DOWN)
+                .instanceId("B")
+                .build());
+
+        assertEquals(Set.of("carol"), presenceService.getOnlineUsers());
+    }
+
+    @Test
+    void heartbeatReplacesInstanceSessions() {
+        presenceService.onPresenceEvent(join("A", 1, "a1", "bob"));
+        presenceService.onPresenceEvent(join("A", 2, "a2", "carol"));
+
+        // The LEAVE for a1 was lost; the next heartbeat no longer lists it
+        presenceService.onPresenceEvent(heartbeat("A", 3, Map.of("a2", "carol", "a3", "dave")));
+
+        assertEquals(Set.of("carol", "dave"), presenceService.getOnlineUsers());
+    }
+
+    @Test
+    void silentInstanceExpiresAfterMissedHeartbeats() {
+        presenceService.onPresenceEvent(join("A", 1, "a1", "bob"));
+        presenceService.sessionConnected("carol", "local");
+
+        presenceService.expireInstances(System.currentTimeMillis() + HEARTBEAT_MS);
+        assertEquals(Set.of("bob", "carol"), presenceService.getOnlineUsers());
+
+        presenceService.expireInstances(System.currentTimeMillis() + 4 * HEARTBEAT_MS);
+        assertEquals(Set.of("carol"), presenceService.getOnlineUsers());
+    }
+
+    @Test
+    void staleHeartbeatDoesNotDropNewerJoin() {
+        presenceService.onPresenceEvent(join("A", 2, "a1", "bob"));
+
+        // Snapshot taken before bob connected, delivered after his JOIN
+        presenceService.onPresenceEvent(heartbeat("A", 1, Map.of()));
+
+        assertEquals(Set.of("bob"), presenceService.getOnlineUsers());
+    }
+
+    @Test
+    void staleHeartbeatDoesNotReviveLeftSession() {
+        presenceService.onPresenceEvent(join("A", 1, "a1", "bob"));
+        presenceService.onPresenceEvent(leave("A", 3, "a1", "bob"));
+
+        // Snapshot taken before bob disconnected, delivered after his LEAVE
+        presenceService.onPresenceEvent(heartbeat("A", 2, Map.of("a1", "bob")));
+
+        assertEquals(Set.of(), presenceService.getOnlineUsers());
+    }
+
+    @Test
+    void publishedEventsAreNumberedInOrder() {
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        presenceService = new PresenceService(rabbitTemplate, messagingTemplate, HEARTBEAT_MS, 3);
+
+        presenceService.sessionConnected("alice", "s1");
+        presenceService.heartbeat();
+        presenceService.sessionDisconnected("s1");
+
+        ArgumentCaptor<PresenceEventDTO> captor = ArgumentCaptor.forClass(PresenceEventDTO.class);
+        verify(rabbitTemplate, times(3)).convertAndSend(anyString(), eq(""), captor.capture());
+        assertEquals(List.of(1L, 2L, 3L), captor.getAllValues().stream().map(PresenceEventDTO::getSeq).toList());
+        assertEquals(Map.of("s1", "alice"), captor.getAllValues().get(1).getSessions());
+    }
+
+    private static PresenceEventDTO join(String instanceId, long seq, String sessionId, String username) {
+        return PresenceEventDTO.builder()
+                .type(PresenceEventDTO.Type.JOIN)
+                .instanceId(instanceId)
+                .seq(seq)
+                .sessionId(sessionId)
+                .username(username)
+                .build();
+    }
+
+    private static PresenceEventDTO leave(String instanceId, long seq, String sessionId, String username) {
+        return PresenceEventDTO.builder()
+                .type(PresenceEventDTO.Type.LEAVE)
+                .instanceId(instanceId)
+                .seq(seq)
+                .sessionId(sessionId)
+                .username(username)
+                .build();
+    }
+
+    private static PresenceEventDTO heartbeat(String instanceId, long seq, Map<String, String> sessions) {
+        return PresenceEventDTO.builder()
+                .type(PresenceEventDTO.Type.HEARTBEAT)
+                .instanceId(instanceId)
+                .seq(seq)
+                .sessions(sessions)
+                .build();
+    }
+
+    private List<PresenceUpdateDTO> sentUpdates() {
+        ArgumentCaptor<PresenceUpdateDTO> captor = ArgumentCaptor.forClass(PresenceUpdateDTO.class);
+        verify(messagingTemplate, atLeast(0)).convertAndSend(eq(PresenceService.PRESENCE_TOPIC), captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,61 @@
+package com.chatapp.service;
+
+import com.chatapp.model.User;
+import com.chatapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userCache = new UserCache(userRepository, mock(RabbitTemplate.class), 100, 60);
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice")));
+
+        userCache.findByUsername("alice");
+        userCache.findByUsername("alice");
+
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void callerMutationsDoNotLeakIntoTheCache() {
+        User registered = user("alice");
+        userCache.put(registered);
+        registered.setPassword("changed");
+
+        User first = userCache.findByUsername("alice").orElseThrow();
+        first.setEmail("changed@example.com");
+
+        User second = userCache.findByUsername("alice").orElseThrow();
+        assertEquals("hash", second.getPassword());
+        assertEquals("alice@example.com", second.getEmail());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void nullKeysAreNotFound() {
+        assertTrue(userCache.findByUsername(null).isEmpty());
+        assertTrue(userCache.findByEmail(null).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    private static User user(String username) {
+        return new User(UUID.randomUUID(), username, username + "@example.com", "hash");
+    }
+}
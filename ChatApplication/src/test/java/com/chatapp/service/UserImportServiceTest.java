@@ -0,0 +1,202 @@
+package com.chatapp.service;
+
+import com.chatapp.dto.ImportRowResultDTO;
+import com.chatapp.dto.ImportRowResultDTO.Status;
+import com.chatapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private JdbcTemplate jdbcTemplate;
+    private UserImportService importService;
+
+    private final List<ImportRowResultDTO> results = new ArrayList<>();
+    private int batches;
+
+    private final UserImportService.ImportListener listener = new UserImportService.ImportListener() {
+        @Override
+        public void onRow(ImportRowResultDTO result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onBatchComplete() {
+            batches++;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed:" + invocation.getArgument(0));
+
+        importService = new UserImportService(userRepository, passwordEncoder, jdbcTemplate,
+                mock(PlatformTransactionManager.class), new ObjectMapper(), 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void csvSkipsHeaderAndKeepsCommasInPassword() throws IOException {
+        int imported = importService.importCsv(input("username,email,password\nalice,alice@example.com,pa,ss\n"), listener);
+
+        assertEquals(1, imported);
+        assertEquals(List.of(new ImportRowResultDTO(2, "alice", Status.IMPORTED, null)), results);
+        verify(passwordEncoder).encode("pa,ss");
+    }
+
+    @Test
+    void csvRowWithTooFewColumnsFailsOnlyThatRow() throws IOException {
+        importService.importCsv(input("bob,bob@example.com\ncarol,carol@example.com,secret\n"), listener);
+
+        assertEquals(Status.FAILED, results.get(0).getStatus());
+        assertEquals(1, results.get(0).getRow());
+        assertEquals(new ImportRowResultDTO(2, "carol", Status.IMPORTED, null), results.get(1));
+    }
+
+    @Test
+    void csvSkipsHeaderAfterByteOrderMark() throws IOException {
+        int imported = importService.importCsv(input("\uFEFFusername,email,password\nalice,alice@example.com,secret\n"), listener);
+
+        assertEquals(1, imported);
+        assertEquals(List.of(new ImportRowResultDTO(2, "alice", Status.IMPORTED, null)), results);
+    }
+
+    @Test
+    void csvByteOrderMarkIsNotPartOfTheFirstUsername() throws IOException {
+        importService.importCsv(input("\uFEFFalice,alice@example.com,secret\n"), listener);
+
+        assertEquals(new ImportRowResultDTO(1, "alice", Status.IMPORTED, null), results.get(0));
+    }
+
+    @Test
+    void csvQuotedRowFailsOnlyThatRow() throws IOException {
+        int imported = importService.importCsv(input("""
+                "alice","alice@example.com","secret"
+                bob,bob@example.com,secret
+                """), listener);
+
+        assertEquals(1, imported);
+        assertEquals(Status.FAILED, statusOfRow(1));
+        assertEquals("Quoted fields are not supported", resultOfRow(1).getError());
+        assertEquals(Status.IMPORTED, statusOfRow(2));
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    void duplicatesInsideTheFileFail() throws IOException {
+        importService.importCsv(input("""
+                alice,alice@example.com,secret
+                alice,other@example.com,secret
+                bob,alice@example.com,secret
+                """), listener);
+
+        assertEquals(Status.IMPORTED, statusOfRow(1));
+        assertEquals("Duplicate username in import", resultOfRow(2).getError());
+        assertEquals("Duplicate email in import", resultOfRow(3).getError());
+    }
+
+    @Test
+    void existingUsersAreRejectedWithOneQueryPerBatch() throws IOException {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("alice"));
+
+        importService.importCsv(input("alice,alice@example.com,secret\nbob,bob@example.com,secret\n"), listener);
+
+        assertEquals("Username already exists", resultOfRow(1).getError());
+        assertEquals(Status.IMPORTED, statusOfRow(2));
+        verify(userRepository, times(1)).findExistingUsernames(anyCollection());
+        verify(passwordEncoder, times(1)).encode("secret");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchConflictFallsBackToRowByRow() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DuplicateKeyException("duplicate key"));
+        when(jdbcTemplate.update(anyString(), any(), eq("bob"), any(), any()))
+                .thenThrow(new DuplicateKeyException("duplicate key"));
+
+        int imported = importService.importCsv(input("alice,alice@example.com,secret\nbob,bob@example.com,secret\n"), listener);
+
+        assertEquals(1, imported);
+        assertEquals(Status.IMPORTED, statusOfRow(1));
+        assertEquals("Username or email already exists", resultOfRow(2).getError());
+    }
+
+    @Test
+    void flushesAfterEveryBatch() throws IOException {
+        importService.importCsv(input("""
+                a,a@example.com,secret
+                b,b@example.com,secret
+                c,c@example.com,secret
+                """), listener);
+
+        // batch of a+b, batch of c, then the end-of-import signal
+        assertEquals(3, batches);
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    void jsonReportsBadElementsPerRowAndCarriesOn() throws IOException {
+        int imported = importService.importJson(input("""
+                [
+                  {"username": "alice", "email": "alice@example.com", "password": "secret"},
+                  "not a user",
+                  {"username": {"first": "x"}, "email": "x@example.com", "password": "secret"},
+                  null,
+                  [1, 2],
+                  {"username": "bob", "email": "bob@example.com", "password": "secret"}
+                ]
+                """), listener);
+
+        assertEquals(2, imported);
+        assertEquals(Status.IMPORTED, statusOfRow(1));
+        assertEquals(Status.FAILED, statusOfRow(2));
+        assertEquals(Status.FAILED, statusOfRow(3));
+        assertEquals(Status.FAILED, statusOfRow(4));
+        assertEquals(Status.FAILED, statusOfRow(5));
+        assertEquals(Status.IMPORTED, statusOfRow(6));
+    }
+
+    private ImportRowResultDTO resultOfRow(int row) {
+        return results.stream()
+                .filter(result -> result.getRow() == row)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No result for row " + row));
+    }
+
+    private Status statusOfRow(int row) {
+        return resultOfRow(row).getStatus();
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}